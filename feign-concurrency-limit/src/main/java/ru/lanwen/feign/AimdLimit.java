@@ -0,0 +1,99 @@
+package ru.lanwen.feign;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static feign.Util.checkArgument;
+import static java.util.concurrent.TimeUnit.DAYS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Additive increase / multiplicative decrease limit of in-flight requests.
+ * Grows by one while calls are fast and the limit is actually used,
+ * shrinks by backoff ratio on slow calls or io errors (like TCP congestion window)
+ *
+ * @author lanwen (Merkushev Kirill)
+ */
+public class AimdLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdMs;
+
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong lastCut;
+
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThresholdMs) {
+        checkArgument(minLimit > 0, "minLimit should be positive: %s", minLimit);
+        checkArgument(minLimit <= initialLimit && initialLimit <= maxLimit,
+                "initialLimit should be in [%s, %s]: %s", minLimit, maxLimit, initialLimit);
+        checkArgument(backoffRatio > 0 && backoffRatio < 1, "backoffRatio should be in (0, 1): %s", backoffRatio);
+        checkArgument(latencyThresholdMs > 0, "latencyThresholdMs should be positive: %s", latencyThresholdMs);
+
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdMs = latencyThresholdMs;
+        this.limit = new AtomicInteger(initialLimit);
+        // any call started after creation may cut the limit
+        this.lastCut = new AtomicLong(System.nanoTime() - DAYS.toNanos(1));
+    }
+
+    /**
+     * @return true if call is allowed. In that case {@link #release(long, long, boolean)} must be called after it
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Slow or dropped calls cut the limit once per congestion event: calls started before the last cut
+     * are ignored, as they were sent with the old limit
+     *
+     * @param startNanos {@link System#nanoTime()} when call was started
+     * @param endNanos   {@link System#nanoTime()} when call was finished
+     * @param dropped    true if call failed with io error or upstream reported overload
+     */
+    void release(long startNanos, long endNanos, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+
+        if (dropped || NANOSECONDS.toMillis(endNanos - startNanos) > latencyThresholdMs) {
+            long cut = lastCut.get();
+            if (startNanos - cut >= 0 && lastCut.compareAndSet(cut, endNanos)) {
+                limit.updateAndGet(value -> Math.max(minLimit, (int) (value * backoffRatio)));
+            }
+        } else if (current * 2 >= limit.get()) {
+            // grow only when at least half of the limit is used, otherwise idle clients would reach max
+            limit.updateAndGet(value -> Math.min(maxLimit, value + 1));
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("limit=[%s]\tin-flight=[%s]\trejected=[%s]", getLimit(), getInFlight(), getRejected());
+    }
+}
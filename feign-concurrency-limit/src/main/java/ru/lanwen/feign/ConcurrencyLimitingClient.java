@@ -0,0 +1,190 @@
+package ru.lanwen.feign;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import lombok.RequiredArgsConstructor;
+
+import java.io.FilterInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static feign.Util.UTF_8;
+
+/**
+ * Limits in-flight requests per key with {@link AimdLimit}.
+ * Calls over the limit are not sent and get 503 response immediately,
+ * so they go through the configured error decoder (e.g. {@code RetryOn500ErrorDecoder}) and retryer.
+ * Call with response body stays in-flight until the body (or its stream) is closed,
+ * so slow body reads count in latency too. Responses returned to the caller as is should be closed
+ *
+ * @author lanwen (Merkushev Kirill)
+ */
+@RequiredArgsConstructor
+public class ConcurrencyLimitingClient implements Client {
+    private static final int HTTP_TOO_MANY_REQUESTS_429 = 429;
+    private static final int HTTP_SERVICE_UNAVAILABLE_503 = 503;
+    static final String REJECTED_REASON = "Concurrency limit exceeded";
+
+    private final ConcurrentMap<String, AimdLimit> limits = new ConcurrentHashMap<>();
+
+    private final Client delegate;
+    private final Function<Request, String> key;
+    private final Supplier<AimdLimit> limit;
+
+    /**
+     * Limits requests per target host, starting with 20 and adapting between 1 and 200 in-flight calls,
+     * which are considered slow after 1 second
+     */
+    public ConcurrencyLimitingClient(Client delegate) {
+        this(delegate, () -> new AimdLimit(20, 1, 200, 0.9, 1000));
+    }
+
+    /**
+     * Limits requests per target host with custom limit
+     */
+    public ConcurrencyLimitingClient(Client delegate, Supplier<AimdLimit> limit) {
+        this(delegate, ConcurrencyLimitingClient::hostOf, limit);
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        String name = key.apply(request);
+        AimdLimit current = limits.get(name);
+        if (current == null) {
+            // computeIfAbsent locks the bin on jdk 8 even for existing keys, so only for the first call
+            current = limits.computeIfAbsent(name, any -> limit.get());
+        }
+
+        if (!current.tryAcquire()) {
+            return Response.builder()
+                    .status(HTTP_SERVICE_UNAVAILABLE_503)
+                    .reason(REJECTED_REASON)
+                    .headers(Collections.emptyMap())
+                    .body(String.format("%s for [%s]: %s", REJECTED_REASON, name, current), UTF_8)
+                    .build();
+        }
+
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = delegate.execute(request, options);
+        } catch (IOException | RuntimeException e) {
+            current.release(start, System.nanoTime(), true);
+            throw e;
+        }
+
+        // upstream reports overload, so it's the same congestion signal as io error
+        boolean dropped = response.status() == HTTP_SERVICE_UNAVAILABLE_503
+                || response.status() == HTTP_TOO_MANY_REQUESTS_429;
+
+        if (response.body() == null) {
+            current.release(start, System.nanoTime(), dropped);
+            return response;
+        }
+
+        AimdLimit acquired = current;
+        return response.toBuilder()
+                .body(new ReleasingBody(response.body(), () -> acquired.release(start, System.nanoTime(), dropped)))
+                .build();
+    }
+
+    /**
+     * @return current limits by key, to be published as metrics
+     */
+    public Map<String, AimdLimit> limits() {
+        return Collections.unmodifiableMap(limits);
+    }
+
+    /**
+     * @return scheme and authority of request url, e.g. {@code http://host:8080}, or only scheme for urls
+     * without authority, so path and query don't produce new keys
+     */
+    public static String hostOf(Request request) {
+        String url = request.url();
+        int authority = url.indexOf("://");
+        if (authority < 0) {
+            int scheme = url.indexOf(':');
+            return scheme < 0 ? "" : url.substring(0, scheme + 1);
+        }
+
+        int end = authority + 3;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        return url.substring(0, end);
+    }
+
+    /**
+     * Releases the limit once, when body or any of its streams is closed
+     */
+    @RequiredArgsConstructor
+    private static class ReleasingBody implements Response.Body {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private final Response.Body delegate;
+        private final Runnable release;
+
+        @Override
+        public Integer length() {
+            return delegate.length();
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return delegate.isRepeatable();
+        }
+
+        @Override
+        public InputStream asInputStream() throws IOException {
+            return new FilterInputStream(delegate.asInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        release();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public Reader asReader() throws IOException {
+            return new FilterReader(delegate.asReader()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        release();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                delegate.close();
+            } finally {
+                release();
+            }
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                release.run();
+            }
+        }
+    }
+}
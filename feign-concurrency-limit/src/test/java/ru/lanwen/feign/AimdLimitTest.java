@@ -0,0 +1,89 @@
+package ru.lanwen.feign;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author lanwen (Merkushev Kirill)
+ */
+class AimdLimitTest {
+
+    private final long now = System.nanoTime();
+
+    @Test
+    void shouldIncreaseOnFastCalls() {
+        AimdLimit limit = new AimdLimit(2, 1, 3, 0.5, 100);
+
+        assertThat(limit.tryAcquire(), is(true));
+        limit.release(now, now + ms(10), false);
+
+        assertThat(limit.getLimit(), is(3));
+        assertThat(limit.getInFlight(), is(0));
+    }
+
+    @Test
+    void shouldNotGrowOverMax() {
+        AimdLimit limit = new AimdLimit(1, 1, 1, 0.5, 100);
+
+        assertThat(limit.tryAcquire(), is(true));
+        limit.release(now, now + ms(10), false);
+
+        assertThat(limit.getLimit(), is(1));
+    }
+
+    @Test
+    void shouldDecreaseOnSlowCalls() {
+        AimdLimit limit = new AimdLimit(10, 2, 10, 0.5, 100);
+
+        assertThat(limit.tryAcquire(), is(true));
+        limit.release(now, now + ms(200), false);
+        assertThat(limit.getLimit(), is(5));
+
+        assertThat(limit.tryAcquire(), is(true));
+        limit.release(now + ms(300), now + ms(300), true);
+        assertThat(limit.getLimit(), is(2));
+    }
+
+    @Test
+    void shouldDecreaseOnceWhenInFlightCallsAreSlowTogether() {
+        AimdLimit limit = new AimdLimit(100, 1, 200, 0.9, 1000);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(limit.tryAcquire(), is(true));
+        }
+        for (int i = 0; i < 100; i++) {
+            limit.release(now, now + ms(1100 + i), false);
+        }
+
+        assertThat(limit.getLimit(), is(90));
+        assertThat(limit.getInFlight(), is(0));
+    }
+
+    @Test
+    void shouldRejectOverLimit() {
+        AimdLimit limit = new AimdLimit(1, 1, 1, 0.5, 100);
+
+        assertThat(limit.tryAcquire(), is(true));
+        assertThat(limit.tryAcquire(), is(false));
+        assertThat(limit.getRejected(), is(1L));
+    }
+
+    @Test
+    void shouldNotAcceptZeroMinLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new AimdLimit(1, 0, 1, 0.5, 100));
+    }
+
+    @Test
+    void shouldNotAcceptZeroLatencyThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> new AimdLimit(1, 1, 1, 0.5, 0));
+    }
+
+    private static long ms(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
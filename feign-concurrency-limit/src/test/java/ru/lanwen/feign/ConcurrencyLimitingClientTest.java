@@ -0,0 +1,157 @@
+package ru.lanwen.feign;
+
+import feign.Client;
+import feign.Feign;
+import feign.FeignException;
+import feign.Request;
+import feign.RequestLine;
+import feign.Response;
+import feign.RetryableException;
+import feign.Retryer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static feign.Util.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author lanwen (Merkushev Kirill)
+ */
+class ConcurrencyLimitingClientTest {
+
+    private static final String URI = "http://localhost:1";
+
+    @Test
+    void shouldRejectOverLimitThroughErrorDecoder() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ConcurrencyLimitingClient client = new ConcurrencyLimitingClient(
+                (request, options) -> {
+                    started.countDown();
+                    await(release);
+                    return ok();
+                },
+                ConcurrencyLimitingClient::hostOf,
+                () -> new AimdLimit(1, 1, 1, 0.5, 1000)
+        );
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> api(client).get());
+        assertThat("first call started", started.await(5, TimeUnit.SECONDS), is(true));
+
+        RetryableException rejected = assertThrows(RetryableException.class, () -> api(client).get());
+        assertThat(rejected.getMessage(), containsString("503"));
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+
+        assertThat(client.limits(), hasKey(URI));
+        assertThat(client.limits().get(URI).getRejected(), is(1L));
+        assertThat(client.limits().get(URI).getInFlight(), is(0));
+    }
+
+    @Test
+    void shouldReleaseAndBackoffOnIOException() {
+        ConcurrencyLimitingClient client = new ConcurrencyLimitingClient(
+                (request, options) -> {
+                    throw new IOException("Connection reset");
+                },
+                ConcurrencyLimitingClient::hostOf,
+                () -> new AimdLimit(10, 1, 10, 0.5, 1000)
+        );
+
+        assertThrows(RetryableException.class, () -> api(client).get());
+
+        assertThat(client.limits().get(URI).getLimit(), is(5));
+        assertThat(client.limits().get(URI).getInFlight(), is(0));
+    }
+
+    @Test
+    void shouldBackoffOnOverloadStatuses() {
+        for (int status : new int[]{503, 429}) {
+            ConcurrencyLimitingClient client = new ConcurrencyLimitingClient(
+                    (request, options) -> Response.builder()
+                            .status(status)
+                            .reason("Overloaded")
+                            .headers(Collections.emptyMap())
+                            .build(),
+                    () -> new AimdLimit(10, 1, 10, 0.5, 1000)
+            );
+
+            assertThrows(FeignException.class, () -> api(client).get());
+
+            assertThat("limit after " + status, client.limits().get(URI).getLimit(), is(5));
+        }
+    }
+
+    @Test
+    void shouldKeepCallInFlightUntilBodyIsClosed() throws Exception {
+        ConcurrencyLimitingClient client = new ConcurrencyLimitingClient(
+                (request, options) -> Response.builder()
+                        .status(200)
+                        .reason("OK")
+                        .headers(Collections.emptyMap())
+                        .body("{}", UTF_8)
+                        .build(),
+                () -> new AimdLimit(10, 1, 10, 0.5, 1000)
+        );
+
+        Response response = client.execute(request(URI + "/path"), new Request.Options());
+        assertThat(client.limits().get(URI).getInFlight(), is(1));
+
+        response.body().asInputStream().close();
+        response.body().close();
+        assertThat(client.limits().get(URI).getInFlight(), is(0));
+    }
+
+    @Test
+    void shouldKeyUnparseableUrlWithoutPathAndQuery() {
+        assertThat(ConcurrencyLimitingClient.hostOf(request("http://host:8080/path with space?q=1")),
+                is("http://host:8080"));
+        assertThat(ConcurrencyLimitingClient.hostOf(request("http://host:8080?q=a b")), is("http://host:8080"));
+        assertThat(ConcurrencyLimitingClient.hostOf(request("http://host#frag")), is("http://host"));
+        assertThat(ConcurrencyLimitingClient.hostOf(request("http:opaque")), is("http:"));
+    }
+
+    private static Dummy api(Client client) {
+        return Feign.builder()
+                .client(client)
+                .retryer(new Retryer.Default(1, 1, 1))
+                .errorDecoder(new RetryOn500ErrorDecoder())
+                .target(Dummy.class, URI);
+    }
+
+    private static Request request(String url) {
+        return Request.create("GET", url, Collections.emptyMap(), null, null);
+    }
+
+    private static Response ok() {
+        return Response.builder()
+                .status(200)
+                .reason("OK")
+                .headers(Collections.emptyMap())
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    interface Dummy {
+        @RequestLine("POST /path")
+        void get();
+    }
+}
@@ -17,7 +17,14 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 import static feign.Util.UTF_8;
 import static feign.Util.checkNotNull;
@@ -32,9 +39,16 @@ public class Slf4jExtendedLogger extends Logger {
     private static final String REQ_ID_KEY = "req-id";
     private static final int HTTP_NO_CONTENT_204 = 204;
     private static final int HTTP_RESET_CONTENT_205 = 205;
+    private static final int SIGNATURE_FRAMES = 5;
+    private static final int MAX_RENDERED_TRACES = 1024;
+    static final int TRACES_PER_SECOND = 5;
     private final ThreadLocal<String> requestId = new ThreadLocal<>();
     private final ThreadLocal<String> retryed = new ThreadLocal<>();
     private final org.slf4j.Logger log;
+    private final Set<String> renderedTraces = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<String, AtomicLong> suppressedTraces = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TraceWindow> traceWindows = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
 
     public Slf4jExtendedLogger(Class<?> clazz) {
         this(LoggerFactory.getLogger(clazz));
@@ -45,7 +59,12 @@ public class Slf4jExtendedLogger extends Logger {
     }
 
     Slf4jExtendedLogger(org.slf4j.Logger logger) {
+        this(logger, System::nanoTime);
+    }
+
+    Slf4jExtendedLogger(org.slf4j.Logger logger, LongSupplier nanoClock) {
         this.log = logger;
+        this.nanoClock = nanoClock;
     }
 
     @Override
@@ -153,9 +172,7 @@ public class Slf4jExtendedLogger extends Logger {
         ));
 
         if (logLevel.ordinal() >= Level.FULL.ordinal()) {
-            StringWriter sw = new StringWriter();
-            ioe.printStackTrace(new PrintWriter(sw));
-            fields.add(field("trace", sw.toString().replaceAll("\t", " ")));
+            fields.addAll(trace(configKey, ioe));
         }
 
         log(fields);
@@ -168,6 +185,72 @@ public class Slf4jExtendedLogger extends Logger {
         log.debug(format, args);
     }
 
+    /**
+     * Renders full trace only for the first occurrence of exception signature (class with top frames)
+     * and not more than {@link #TRACES_PER_SECOND} per config key. Other occurrences are referenced by trace-id
+     * with the number of not rendered occurrences of this signature. Signature suppressed before its first render
+     * is marked as pending and rendered on the next occurrence with a free slot
+     */
+    private List<Map.Entry<String, Object>> trace(String configKey, IOException ioe) {
+        String traceId = Integer.toHexString(signature(ioe));
+
+        if (renderedTraces.size() >= MAX_RENDERED_TRACES) {
+            renderedTraces.clear();
+        }
+        if (!renderedTraces.add(traceId)) {
+            return asList(
+                    field("trace-id", traceId),
+                    field("trace-suppressed", suppressed(traceId).incrementAndGet())
+            );
+        }
+
+        if (!window(configKey).tryRender()) {
+            renderedTraces.remove(traceId);
+            return asList(
+                    field("trace-id", traceId),
+                    field("trace-pending", true),
+                    field("trace-suppressed", suppressed(traceId).incrementAndGet())
+            );
+        }
+
+        StringWriter sw = new StringWriter();
+        ioe.printStackTrace(new PrintWriter(sw));
+        return asList(
+                field("trace-id", traceId),
+                field("trace-suppressed", suppressed(traceId).get()),
+                field("trace", sw.toString().replace('\t', ' '))
+        );
+    }
+
+    private TraceWindow window(String configKey) {
+        TraceWindow window = traceWindows.get(configKey);
+        if (window == null) {
+            // computeIfAbsent locks the bin on jdk 8 even for existing keys, so only for the first failure
+            window = traceWindows.computeIfAbsent(configKey, key -> new TraceWindow(nanoClock));
+        }
+        return window;
+    }
+
+    private AtomicLong suppressed(String traceId) {
+        AtomicLong counter = suppressedTraces.get(traceId);
+        if (counter == null) {
+            if (suppressedTraces.size() >= MAX_RENDERED_TRACES) {
+                suppressedTraces.clear();
+            }
+            counter = suppressedTraces.computeIfAbsent(traceId, key -> new AtomicLong());
+        }
+        return counter;
+    }
+
+    private static int signature(Throwable throwable) {
+        StackTraceElement[] frames = throwable.getStackTrace();
+        int hash = throwable.getClass().getName().hashCode();
+        for (int i = 0; i < Math.min(SIGNATURE_FRAMES, frames.length); i++) {
+            hash = 31 * hash + frames[i].hashCode();
+        }
+        return hash;
+    }
+
     private String reqId() {
         if (requestId.get() == null) {
             requestId.set(UUID.randomUUID().toString());
@@ -198,4 +281,27 @@ public class Slf4jExtendedLogger extends Logger {
         }
     }
 
+    /**
+     * Counts rendered traces in one second window
+     */
+    private static class TraceWindow {
+        private final LongSupplier nanoClock;
+        private final AtomicLong started;
+        private final AtomicInteger rendered = new AtomicInteger();
+
+        TraceWindow(LongSupplier nanoClock) {
+            this.nanoClock = nanoClock;
+            this.started = new AtomicLong(nanoClock.getAsLong());
+        }
+
+        boolean tryRender() {
+            long now = nanoClock.getAsLong();
+            long start = started.get();
+            if (now - start >= TimeUnit.SECONDS.toNanos(1) && started.compareAndSet(start, now)) {
+                rendered.set(0);
+            }
+            return rendered.incrementAndGet() <= TRACES_PER_SECOND;
+        }
+    }
+
 }
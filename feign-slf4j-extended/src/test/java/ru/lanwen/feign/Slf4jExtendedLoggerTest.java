@@ -28,8 +28,12 @@ import ru.lanwen.wiremock.ext.WiremockResolver.Wiremock;
 import ru.lanwen.wiremock.ext.WiremockUriResolver;
 import ru.lanwen.wiremock.ext.WiremockUriResolver.WiremockUri;
 
+import java.io.IOException;
+import java.net.SocketTimeoutException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
@@ -169,6 +173,78 @@ public class Slf4jExtendedLoggerTest {
     }
 
 
+    @Test
+    void shouldRenderSameTraceOnlyOnce() {
+        Slf4jExtendedLogger logger = new Slf4jExtendedLogger(LOGGER);
+        IOException ioe = new IOException("Connection reset");
+
+        for (int i = 0; i < 3; i++) {
+            logger.logIOException("Dummy#get(String)", Level.FULL, ioe, 0);
+        }
+
+        List<String> events = appender.lines();
+        assertThat(events, hasSize(3));
+        String traceId = substringBetween(events.get(0), "trace-id=[", "]");
+        assertThat(events.get(0), containsString("trace=[java.io.IOException: Connection reset"));
+        assertThat(events.get(1), allOf(
+                not(containsString("trace=")),
+                containsString("trace-id=[" + traceId + "]"),
+                containsString("trace-suppressed=[1]")
+        ));
+        assertThat(events.get(2), allOf(
+                not(containsString("trace-pending")),
+                containsString("trace-suppressed=[2]")
+        ));
+    }
+
+    @Test
+    void shouldRateLimitTracesPerConfigKey() {
+        AtomicLong clock = new AtomicLong();
+        Slf4jExtendedLogger logger = new Slf4jExtendedLogger(LOGGER, clock::get);
+
+        for (int i = 0; i <= Slf4jExtendedLogger.TRACES_PER_SECOND; i++) {
+            logger.logIOException("Dummy#get(String)", Level.FULL, reset(i), 0);
+        }
+        logger.logIOException("Dummy#other()", Level.FULL, new IOException("Connection reset"), 0);
+
+        List<String> events = appender.lines();
+        assertThat(events.stream().filter(line -> line.contains("trace=")).count(),
+                is((long) Slf4jExtendedLogger.TRACES_PER_SECOND + 1));
+        assertThat(events.get(Slf4jExtendedLogger.TRACES_PER_SECOND), allOf(
+                not(containsString("trace=")),
+                containsString("trace-pending=[true]"),
+                containsString("trace-suppressed=[1]")
+        ));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        logger.logIOException("Dummy#get(String)", Level.FULL, reset(Slf4jExtendedLogger.TRACES_PER_SECOND), 0);
+
+        assertThat(appender.lines().get(events.size()), allOf(
+                containsString("trace="),
+                not(containsString("trace-pending")),
+                containsString("trace-suppressed=[1]")
+        ));
+    }
+
+    @Test
+    void shouldCountSuppressedTracesPerSignature() {
+        Slf4jExtendedLogger logger = new Slf4jExtendedLogger(LOGGER, () -> 0);
+        IOException reset = reset(0);
+
+        for (int i = 0; i < 4; i++) {
+            logger.logIOException("Dummy#get(String)", Level.FULL, reset, 0);
+        }
+        logger.logIOException("Dummy#get(String)", Level.FULL, new SocketTimeoutException("Read timed out"), 0);
+        logger.logIOException("Dummy#get(String)", Level.FULL, reset, 0);
+
+        List<String> events = appender.lines();
+        assertThat(events.get(4), allOf(
+                containsString("trace=[java.net.SocketTimeoutException"),
+                containsString("trace-suppressed=[0]")
+        ));
+        assertThat(events.get(5), containsString("trace-suppressed=[4]"));
+    }
+
     @Test
     void shouldLogNothingOnDisabledDebug(@Wiremock WireMockServer server, @WiremockUri String uri) throws Exception {
         Logger logger = mock(Logger.class);
@@ -249,6 +325,14 @@ public class Slf4jExtendedLoggerTest {
     }
 
 
+    private static IOException reset(int line) {
+        IOException ioe = new IOException("Connection reset");
+        ioe.setStackTrace(new StackTraceElement[]{
+                new StackTraceElement("Some", "method", "Some.java", line)
+        });
+        return ioe;
+    }
+
     private String reqIdFrom(String line) {
         return substringBetween(line, "req-id=[", "]");
     }